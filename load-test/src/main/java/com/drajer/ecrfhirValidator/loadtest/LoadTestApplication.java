@@ -0,0 +1,22 @@
+package com.drajer.ecrfhirValidator.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Entry point of the load-test harness. The active profile selects the mode:
+ * <ul>
+ * <li>{@code mock-tx} - serves a local stand-in for the terminology server</li>
+ * <li>{@code load} - drives {@code /api/fhir/validator} and reports the
+ * throughput/latency curve</li>
+ * <li>{@code generate} - writes the synthetic eICR bundles to disk</li>
+ * </ul>
+ */
+@SpringBootApplication
+public class LoadTestApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(LoadTestApplication.class, args);
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.drajer.ecrfhirValidator.loadtest.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import ca.uhn.fhir.context.FhirContext;
+
+@Configuration
+public class LoadTestConfiguration {
+
+	public static final FhirContext ctx = FhirContext.forR4();
+
+	@Bean
+	public FhirContext fhirContext() {
+		return ctx;
+	}
+
+	/**
+	 * RestTemplate backed by a connection pool sized to the highest concurrency
+	 * step. The JDK default keeps only 5 idle connections per host, which would
+	 * add a TCP handshake to most requests at higher steps.
+	 */
+	@Bean
+	public RestTemplate restTemplate(RestTemplateBuilder builder,
+			@Value("${loadtest.request-timeout-seconds:120}") long requestTimeoutSeconds,
+			@Value("${loadtest.concurrency:1}") int[] concurrencyLevels) {
+		int maxConcurrency = Math.max(1, Arrays.stream(concurrencyLevels).max().orElse(1));
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(maxConcurrency);
+		connectionManager.setDefaultMaxPerRoute(maxConcurrency);
+		CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+
+		return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+				.setConnectTimeout(Duration.ofSeconds(10)).setReadTimeout(Duration.ofSeconds(requestTimeoutSeconds))
+				.build();
+	}
+
+}
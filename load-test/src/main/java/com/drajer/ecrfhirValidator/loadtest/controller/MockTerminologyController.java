@@ -0,0 +1,251 @@
+package com.drajer.ecrfhirValidator.loadtest.controller;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CapabilityStatement;
+import org.hl7.fhir.r4.model.CodeType;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.Enumerations.FHIRVersion;
+import org.hl7.fhir.r4.model.Enumerations.PublicationStatus;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.StringType;
+import org.hl7.fhir.r4.model.TerminologyCapabilities;
+import org.hl7.fhir.r4.model.UriType;
+import org.hl7.fhir.r4.model.ValueSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+
+/**
+ * Local stand-in for {@code tx.fhir.org}. Answers the terminology operations
+ * the validation engine issues ({@code metadata}, {@code $validate-code},
+ * {@code $expand}, {@code $lookup} and batches of those) with a configurable
+ * latency, so that load tests measure the validator rather than the public
+ * terminology server. Every code is reported as valid.
+ *
+ * @author Drajer LLC
+ */
+@Profile("mock-tx")
+@RestController
+@RequestMapping("/fhir")
+public class MockTerminologyController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MockTerminologyController.class);
+
+	private static final MediaType FHIR_JSON = MediaType.parseMediaType("application/fhir+json;charset=UTF-8");
+
+	private final FhirContext fhirContext;
+
+	private final long latencyMs;
+
+	private final long jitterMs;
+
+	/**
+	 * Code systems advertised in {@code TerminologyCapabilities}. The validator
+	 * treats codes from any other system as unknown and never sends them here.
+	 */
+	private final String[] codeSystems;
+
+	public MockTerminologyController(FhirContext fhirContext, @Value("${mock.tx.latency-ms:50}") long latencyMs,
+			@Value("${mock.tx.jitter-ms:20}") long jitterMs,
+			@Value("${mock.tx.code-systems:}") String[] codeSystems) {
+		this.fhirContext = fhirContext;
+		this.latencyMs = latencyMs;
+		this.jitterMs = jitterMs;
+		this.codeSystems = codeSystems;
+		LOGGER.info("Mock terminology server latency {} ms (+/- {} ms), {} code systems", latencyMs, jitterMs,
+				codeSystems.length);
+	}
+
+	@GetMapping("/metadata")
+	public ResponseEntity<String> metadata(@RequestParam(required = false) String mode) {
+		simulateLatency();
+		if ("terminology".equals(mode)) {
+			return fhirResponse(HttpStatus.OK, terminologyCapabilities());
+		}
+		return fhirResponse(HttpStatus.OK, capabilityStatement());
+	}
+
+	@RequestMapping({ "/ValueSet/$validate-code", "/CodeSystem/$validate-code" })
+	public ResponseEntity<String> validateCode(@RequestParam(required = false) String code,
+			@RequestParam(required = false) String system, @RequestParam(required = false) String display,
+			@RequestBody(required = false) String body) {
+		simulateLatency();
+		Parameters request = body != null ? parse(body, Parameters.class) : new Parameters();
+		if (code != null) {
+			request.addParameter().setName("coding").setValue(new Coding(system, code, display));
+		}
+		return fhirResponse(HttpStatus.OK, validateCodeResult(request));
+	}
+
+	@RequestMapping("/ValueSet/$expand")
+	public ResponseEntity<String> expand(@RequestBody(required = false) String body) {
+		simulateLatency();
+		Parameters request = body != null ? parse(body, Parameters.class) : new Parameters();
+		return fhirResponse(HttpStatus.OK, expansion(request));
+	}
+
+	@RequestMapping("/CodeSystem/$lookup")
+	public ResponseEntity<String> lookup(@RequestParam(required = false) String code) {
+		simulateLatency();
+		Parameters result = new Parameters();
+		result.addParameter("name", "mock");
+		result.addParameter("display", StringUtils.defaultString(code));
+		return fhirResponse(HttpStatus.OK, result);
+	}
+
+	@PostMapping({ "", "/" })
+	public ResponseEntity<String> batch(@RequestBody String body) {
+		simulateLatency();
+		Bundle request = parse(body, Bundle.class);
+		Bundle response = new Bundle().setType(Bundle.BundleType.BATCHRESPONSE);
+		response.setId(UUID.randomUUID().toString());
+		for (Bundle.BundleEntryComponent entry : request.getEntry()) {
+			Parameters parameters = entry.getResource() instanceof Parameters ? (Parameters) entry.getResource()
+					: new Parameters();
+			Resource result = entry.getRequest().getUrl() != null && entry.getRequest().getUrl().contains("$expand")
+					? expansion(parameters)
+					: validateCodeResult(parameters);
+			response.addEntry().setResource(result).getResponse().setStatus("200 OK");
+		}
+		return fhirResponse(HttpStatus.OK, response);
+	}
+
+	@RequestMapping("/**")
+	public ResponseEntity<String> unsupported() {
+		OperationOutcome outcome = new OperationOutcome();
+		outcome.addIssue().setSeverity(OperationOutcome.IssueSeverity.ERROR)
+				.setCode(OperationOutcome.IssueType.NOTSUPPORTED)
+				.setDiagnostics("Operation not supported by the mock terminology server");
+		return fhirResponse(HttpStatus.NOT_FOUND, outcome);
+	}
+
+	private Parameters validateCodeResult(Parameters request) {
+		Parameters result = new Parameters();
+		result.addParameter().setName("result").setValue(new BooleanType(true));
+
+		Coding coding = null;
+		if (request.getParameter("coding") instanceof Coding) {
+			coding = (Coding) request.getParameter("coding");
+		} else if (request.getParameter("code") != null) {
+			coding = new Coding(request.getParameter("system") != null ? request.getParameter("system").primitiveValue()
+					: null, request.getParameter("code").primitiveValue(),
+					request.getParameter("display") != null ? request.getParameter("display").primitiveValue() : null);
+		}
+		if (coding != null) {
+			if (coding.hasSystem()) {
+				result.addParameter().setName("system").setValue(new UriType(coding.getSystem()));
+			}
+			if (coding.hasCode()) {
+				result.addParameter().setName("code").setValue(new CodeType(coding.getCode()));
+			}
+			if (coding.hasDisplay()) {
+				result.addParameter().setName("display").setValue(new StringType(coding.getDisplay()));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Expands enumerated value sets to their listed concepts; intensional ones
+	 * come back empty.
+	 */
+	private ValueSet expansion(Parameters request) {
+		ValueSet valueSet = null;
+		for (Parameters.ParametersParameterComponent parameter : request.getParameter()) {
+			if ("valueSet".equals(parameter.getName()) && parameter.getResource() instanceof ValueSet) {
+				valueSet = (ValueSet) parameter.getResource();
+			}
+		}
+		if (valueSet == null) {
+			valueSet = new ValueSet().setStatus(PublicationStatus.ACTIVE);
+			if (request.getParameter("url") != null) {
+				valueSet.setUrl(request.getParameter("url").primitiveValue());
+			}
+		}
+
+		ValueSet.ValueSetExpansionComponent expansion = valueSet.getExpansion();
+		expansion.setIdentifier("urn:uuid:" + UUID.randomUUID()).setTimestamp(new Date());
+		for (ValueSet.ConceptSetComponent include : valueSet.getCompose().getInclude()) {
+			for (ValueSet.ConceptReferenceComponent concept : include.getConcept()) {
+				expansion.addContains().setSystem(include.getSystem()).setVersion(include.getVersion())
+						.setCode(concept.getCode()).setDisplay(concept.getDisplay());
+			}
+		}
+		expansion.setTotal(expansion.getContains().size());
+		return valueSet;
+	}
+
+	private CapabilityStatement capabilityStatement() {
+		CapabilityStatement capabilityStatement = new CapabilityStatement();
+		capabilityStatement.setStatus(PublicationStatus.ACTIVE).setDate(new Date())
+				.setKind(CapabilityStatement.CapabilityStatementKind.INSTANCE).setFhirVersion(FHIRVersion._4_0_1)
+				.addFormat("json").addFormat("xml");
+		capabilityStatement.getSoftware().setName("ecr-fhir-validator mock terminology server");
+		capabilityStatement.addRest().setMode(CapabilityStatement.RestfulCapabilityMode.SERVER);
+		return capabilityStatement;
+	}
+
+	private TerminologyCapabilities terminologyCapabilities() {
+		TerminologyCapabilities capabilities = new TerminologyCapabilities();
+		capabilities.setStatus(PublicationStatus.ACTIVE).setDate(new Date())
+				.setKind(TerminologyCapabilities.CapabilityStatementKind.INSTANCE);
+		for (String codeSystem : codeSystems) {
+			if (StringUtils.isNotBlank(codeSystem)) {
+				capabilities.addCodeSystem().setUri(codeSystem.trim());
+			}
+		}
+		capabilities.getExpansion().setHierarchical(false).setPaging(false);
+		return capabilities;
+	}
+
+	private <T extends IBaseResource> T parse(String body, Class<T> type) {
+		EncodingEnum encoding = EncodingEnum.detectEncodingNoDefault(body);
+		if (encoding == EncodingEnum.XML) {
+			return fhirContext.newXmlParser().parseResource(type, body);
+		}
+		return fhirContext.newJsonParser().parseResource(type, body);
+	}
+
+	private ResponseEntity<String> fhirResponse(HttpStatus status, IBaseResource resource) {
+		return ResponseEntity.status(status).contentType(FHIR_JSON)
+				.body(fhirContext.newJsonParser().encodeResourceToString(resource));
+	}
+
+	private void simulateLatency() {
+		long delay = latencyMs;
+		if (jitterMs > 0) {
+			delay += ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1);
+		}
+		if (delay <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
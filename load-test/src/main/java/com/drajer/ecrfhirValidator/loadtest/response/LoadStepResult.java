@@ -0,0 +1,56 @@
+package com.drajer.ecrfhirValidator.loadtest.response;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one concurrency step of a load test. Latencies are recorded in
+ * microseconds for successful requests only; failed requests are counted in
+ * {@link #getErrors()}.
+ */
+public class LoadStepResult {
+
+	private final int concurrency;
+	private final long elapsedNanos;
+	private final long errors;
+	private final Histogram histogram;
+
+	public LoadStepResult(int concurrency, long elapsedNanos, long errors, Histogram histogram) {
+		this.concurrency = concurrency;
+		this.elapsedNanos = elapsedNanos;
+		this.errors = errors;
+		this.histogram = histogram;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long getErrors() {
+		return errors;
+	}
+
+	public Histogram getHistogram() {
+		return histogram;
+	}
+
+	public long getRequests() {
+		return histogram.getTotalCount();
+	}
+
+	public double getThroughput() {
+		return elapsedNanos > 0 ? getRequests() * 1_000_000_000d / elapsedNanos : 0;
+	}
+
+	public double getLatencyMillis(double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000d;
+	}
+
+	public double getMaxLatencyMillis() {
+		return histogram.getMaxValue() / 1000d;
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.drajer.ecrfhirValidator.loadtest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the synthetic eICR bundles the load driver would send to disk, for
+ * use with other tools or for replaying a single request by hand.
+ *
+ * @author Drajer LLC
+ */
+@Profile("generate")
+@Service
+public class BundleExportRunner implements CommandLineRunner {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BundleExportRunner.class);
+
+	private final SyntheticEicrGenerator generator;
+
+	@Value("${loadtest.generate.out-dir}")
+	private String outDir;
+
+	@Value("${loadtest.bundles.count:50}")
+	private int bundleCount;
+
+	@Value("${loadtest.bundles.seed:42}")
+	private long bundleSeed;
+
+	public BundleExportRunner(SyntheticEicrGenerator generator) {
+		this.generator = generator;
+	}
+
+	@Override
+	public void run(String... args) throws Exception {
+		Path outPath = Path.of(outDir);
+		Files.createDirectories(outPath);
+		Random random = new Random(bundleSeed);
+		for (int i = 0; i < bundleCount; i++) {
+			Files.writeString(outPath.resolve("eicr-" + i + ".xml"), generator.generateXml(random),
+					StandardCharsets.UTF_8);
+		}
+		LOGGER.info("Wrote {} synthetic eICR bundles to {}", bundleCount, outPath.toAbsolutePath());
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.drajer.ecrfhirValidator.loadtest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.drajer.ecrfhirValidator.loadtest.response.LoadStepResult;
+import com.drajer.ecrfhirValidator.loadtest.utils.LoadReportUtils;
+
+/**
+ * Drives {@code /api/fhir/validator} with synthetic eICR bundles at each of
+ * the configured concurrency levels and reports the resulting
+ * throughput/latency curve.
+ * <p>
+ * Each step is a closed loop: {@code concurrency} workers post a bundle, wait
+ * for the response and post the next one. Requests completed during the
+ * warm-up are discarded, the rest are recorded in an HdrHistogram.
+ *
+ * @author Drajer LLC
+ */
+@Profile("load")
+@Service
+public class LoadDriver implements CommandLineRunner {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadDriver.class);
+
+	private final SyntheticEicrGenerator generator;
+
+	private final RestTemplate restTemplate;
+
+	@Value("${loadtest.target}")
+	private String target;
+
+	@Value("${loadtest.concurrency}")
+	private int[] concurrencyLevels;
+
+	@Value("${loadtest.warmup-seconds:10}")
+	private long warmupSeconds;
+
+	@Value("${loadtest.duration-seconds:30}")
+	private long durationSeconds;
+
+	@Value("${loadtest.request-timeout-seconds:120}")
+	private long requestTimeoutSeconds;
+
+	@Value("${loadtest.saturation-threshold:0.10}")
+	private double saturationThreshold;
+
+	@Value("${loadtest.bundles.count:50}")
+	private int bundleCount;
+
+	@Value("${loadtest.bundles.seed:42}")
+	private long bundleSeed;
+
+	@Value("${loadtest.report.dir:}")
+	private String reportDir;
+
+	public LoadDriver(SyntheticEicrGenerator generator, RestTemplate restTemplate) {
+		this.generator = generator;
+		this.restTemplate = restTemplate;
+	}
+
+	@Override
+	public void run(String... args) throws Exception {
+		// generate up front so bundle creation does not count against the validator
+		Random random = new Random(bundleSeed);
+		List<byte[]> bundles = new ArrayList<>(bundleCount);
+		for (int i = 0; i < bundleCount; i++) {
+			bundles.add(generator.generateXml(random).getBytes(StandardCharsets.UTF_8));
+		}
+		LOGGER.info("Generated {} synthetic eICR bundles, driving {}", bundles.size(), target);
+
+		List<LoadStepResult> results = new ArrayList<>();
+		for (int concurrency : concurrencyLevels) {
+			LoadStepResult result = runStep(concurrency, bundles);
+			LOGGER.info("concurrency={} throughput={} req/s p99={} ms errors={}", concurrency,
+					String.format("%.2f", result.getThroughput()), String.format("%.1f", result.getLatencyMillis(99)),
+					result.getErrors());
+			results.add(result);
+		}
+
+		LOGGER.info("Throughput/latency curve for {}{}{}", target, System.lineSeparator(),
+				LoadReportUtils.formatTable(results, saturationThreshold));
+		if (StringUtils.isNotBlank(reportDir)) {
+			LoadReportUtils.writeReport(results, Path.of(reportDir));
+		}
+	}
+
+	private LoadStepResult runStep(int concurrency, List<byte[]> bundles) throws InterruptedException {
+		Recorder recorder = new Recorder(3);
+		AtomicLong errors = new AtomicLong();
+		AtomicLong sequence = new AtomicLong();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			workers.execute(() -> {
+				while (System.nanoTime() < deadline) {
+					long index = sequence.getAndIncrement();
+					try {
+						HttpEntity<MultiValueMap<String, Object>> request = createRequest(
+								bundles.get((int) (index % bundles.size())), index);
+						long start = System.nanoTime();
+						restTemplate.postForEntity(target, request, String.class);
+						recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+					} catch (RestClientException e) {
+						errors.incrementAndGet();
+						LOGGER.debug("Request {} failed: {}", index, e.getMessage());
+					} catch (RuntimeException e) {
+						// keep the worker alive so the step runs at its reported concurrency
+						errors.incrementAndGet();
+						LOGGER.warn("Request {} failed unexpectedly", index, e);
+					}
+				}
+			});
+		}
+
+		LOGGER.info("concurrency={} warming up for {} s", concurrency, warmupSeconds);
+		TimeUnit.SECONDS.sleep(warmupSeconds);
+		recorder.getIntervalHistogram();
+		errors.set(0);
+		long measureStart = System.nanoTime();
+
+		LOGGER.info("concurrency={} measuring for {} s", concurrency, durationSeconds);
+		TimeUnit.SECONDS.sleep(durationSeconds);
+		Histogram histogram = recorder.getIntervalHistogram();
+		long elapsed = System.nanoTime() - measureStart;
+		long failed = errors.get();
+
+		workers.shutdown();
+		if (!workers.awaitTermination(requestTimeoutSeconds, TimeUnit.SECONDS)) {
+			workers.shutdownNow();
+		}
+		return new LoadStepResult(concurrency, elapsed, failed, histogram);
+	}
+
+	private HttpEntity<MultiValueMap<String, Object>> createRequest(byte[] bundle, long index) {
+		HttpHeaders fileHeaders = new HttpHeaders();
+		fileHeaders.setContentType(MediaType.APPLICATION_XML);
+		ByteArrayResource file = new ByteArrayResource(bundle) {
+			@Override
+			public String getFilename() {
+				return "eicr-" + index + ".xml";
+			}
+		};
+
+		MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+		body.add("file", new HttpEntity<>(file, fileHeaders));
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+		return new HttpEntity<>(body, headers);
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.drajer.ecrfhirValidator.loadtest.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.utilities.npm.NpmPackage;
+import org.hl7.fhir.utilities.npm.NpmPackage.NpmPackageFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.util.FhirTerser;
+
+/**
+ * Generates synthetic eICR document bundles from the examples shipped in the
+ * {@code ecr.fhir.us.anonymized-eicr.r4} package. Every bundle is a copy of the
+ * example document bundle with fresh {@code urn:uuid} identities, plus a random
+ * number of extra profiled clinical entries so that bundle sizes vary the way
+ * production traffic does.
+ *
+ * @author Drajer LLC
+ */
+@Profile({ "load", "generate" })
+@Service
+public class SyntheticEicrGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SyntheticEicrGenerator.class);
+
+	private static final String EXAMPLE_FOLDER = "example";
+
+	/** Example resource types cloned as additional entries. */
+	private static final Set<String> CLINICAL_TYPES = Set.of("Condition", "Observation", "Immunization",
+			"MedicationAdministration", "Procedure", "ServiceRequest");
+
+	private final FhirContext fhirContext;
+
+	private final int extraEntriesMax;
+
+	private final Bundle seedBundle;
+
+	/** Generated timestamps fall within this window before the seed bundle's own timestamp. */
+	private static final long TIMESTAMP_WINDOW_SECONDS = TimeUnit.DAYS.toSeconds(365);
+
+	private final List<Resource> clinicalTemplates = new ArrayList<>();
+
+	public SyntheticEicrGenerator(FhirContext fhirContext,
+			@Value("${loadtest.package}") org.springframework.core.io.Resource packageResource,
+			@Value("${loadtest.bundles.extra-entries-max:20}") int extraEntriesMax) throws IOException {
+		this.fhirContext = fhirContext;
+		this.extraEntriesMax = extraEntriesMax;
+
+		try (InputStream is = packageResource.getInputStream()) {
+			NpmPackage npmPackage = NpmPackage.fromPackage(is);
+			NpmPackageFolder examples = npmPackage.getFolders().get(EXAMPLE_FOLDER);
+			if (examples == null) {
+				throw new IllegalStateException("Package " + npmPackage.id() + " has no example folder");
+			}
+
+			IParser parser = fhirContext.newJsonParser();
+			Bundle documentBundle = null;
+			for (Map.Entry<String, List<String>> type : examples.getTypes().entrySet()) {
+				for (String file : type.getValue()) {
+					String json = new String(examples.fetchFile(file), StandardCharsets.UTF_8);
+					if ("Bundle".equals(type.getKey())) {
+						Bundle bundle = parser.parseResource(Bundle.class, json);
+						if (bundle.getType() == Bundle.BundleType.DOCUMENT) {
+							documentBundle = bundle;
+						}
+					} else if (CLINICAL_TYPES.contains(type.getKey())) {
+						Resource resource = (Resource) parser.parseResource(json);
+						if (resource.getMeta().hasProfile()) {
+							clinicalTemplates.add(resource);
+						}
+					}
+				}
+			}
+			if (documentBundle == null) {
+				throw new IllegalStateException("Package " + npmPackage.id() + " has no example document bundle");
+			}
+			this.seedBundle = documentBundle;
+			LOGGER.info("Loaded seed bundle with {} entries and {} clinical templates from {}#{}",
+					seedBundle.getEntry().size(), clinicalTemplates.size(), npmPackage.id(), npmPackage.version());
+		}
+	}
+
+	/**
+	 * Generates one synthetic eICR document bundle.
+	 *
+	 * @param random -- source of randomness, seed it for reproducible runs
+	 * @return Bundle
+	 */
+	public Bundle generate(Random random) {
+		Bundle bundle = seedBundle.copy();
+		Map<String, String> identities = new HashMap<>();
+
+		for (BundleEntryComponent entry : bundle.getEntry()) {
+			Resource resource = entry.getResource();
+			String oldReference = resource.fhirType() + "/" + resource.getIdElement().getIdPart();
+			String oldFullUrl = entry.getFullUrl();
+			String newUrl = reassignIdentity(entry, random);
+			identities.put(oldReference, newUrl);
+			if (oldFullUrl != null) {
+				identities.put(oldFullUrl, newUrl);
+			}
+		}
+
+		int extraEntries = extraEntriesMax > 0 && !clinicalTemplates.isEmpty() ? random.nextInt(extraEntriesMax + 1)
+				: 0;
+		for (int i = 0; i < extraEntries; i++) {
+			Resource resource = clinicalTemplates.get(random.nextInt(clinicalTemplates.size())).copy();
+			reassignIdentity(bundle.addEntry().setResource(resource), random);
+		}
+
+		FhirTerser terser = fhirContext.newTerser();
+		for (BundleEntryComponent entry : bundle.getEntry()) {
+			for (Reference reference : terser.getAllPopulatedChildElementsOfType(entry.getResource(),
+					Reference.class)) {
+				String target = identities.get(reference.getReference());
+				if (target != null) {
+					reference.setReference(target);
+				}
+			}
+		}
+
+		bundle.setId(randomUuid(random).toString());
+		bundle.getIdentifier().setValue("urn:uuid:" + randomUuid(random));
+		// derived from the seed bundle and random so that seeded runs stay reproducible
+		long baseMillis = seedBundle.hasTimestamp() ? seedBundle.getTimestamp().getTime() : 0L;
+		bundle.setTimestamp(new Date(baseMillis
+				- TimeUnit.SECONDS.toMillis((long) (random.nextDouble() * TIMESTAMP_WINDOW_SECONDS))));
+		return bundle;
+	}
+
+	/**
+	 * Generates a synthetic eICR document bundle encoded as XML, the format
+	 * accepted by {@code /api/fhir/validator}.
+	 *
+	 * @param random -- source of randomness, seed it for reproducible runs
+	 * @return String
+	 */
+	public String generateXml(Random random) {
+		return fhirContext.newXmlParser().encodeResourceToString(generate(random));
+	}
+
+	/**
+	 * Gives the entry resource a new id and {@code urn:uuid} fullUrl.
+	 *
+	 * @return the new fullUrl
+	 */
+	private String reassignIdentity(BundleEntryComponent entry, Random random) {
+		UUID id = randomUuid(random);
+		entry.getResource().setId(id.toString());
+		entry.setFullUrl("urn:uuid:" + id);
+		return entry.getFullUrl();
+	}
+
+	private UUID randomUuid(Random random) {
+		return new UUID(random.nextLong(), random.nextLong());
+	}
+
+}
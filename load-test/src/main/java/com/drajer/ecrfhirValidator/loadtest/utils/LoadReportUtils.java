@@ -0,0 +1,106 @@
+package com.drajer.ecrfhirValidator.loadtest.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.drajer.ecrfhirValidator.loadtest.response.LoadStepResult;
+
+public class LoadReportUtils {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoadReportUtils.class);
+
+	private static final String CSV_HEADER = "concurrency,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+	/** Histogram values are in microseconds, percentile files are written in milliseconds. */
+	private static final double MICROS_PER_MILLI = 1000.0;
+
+	private LoadReportUtils() {
+	}
+
+	/**
+	 * method will find the first step whose throughput grows by less than the
+	 * threshold over the previous step
+	 *
+	 * @param results   -- steps in increasing concurrency order
+	 * @param threshold -- minimum relative throughput gain, e.g. 0.10
+	 * @return index of the saturated step, -1 when throughput kept scaling
+	 */
+	public static int findSaturationIndex(List<LoadStepResult> results, double threshold) {
+		for (int i = 1; i < results.size(); i++) {
+			double previous = results.get(i - 1).getThroughput();
+			if (results.get(i).getThroughput() < previous * (1 + threshold)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The method formats the throughput/latency curve as a console table.
+	 *
+	 * @param results   -- steps in increasing concurrency order
+	 * @param threshold -- saturation threshold, see
+	 *                  {@link #findSaturationIndex(List, double)}
+	 * @return String
+	 */
+	public static String formatTable(List<LoadStepResult> results, double threshold) {
+		int saturationIndex = findSaturationIndex(results, threshold);
+		StringBuilder table = new StringBuilder();
+		table.append(String.format(Locale.ROOT, "%11s %9s %7s %10s %9s %9s %9s %9s %9s%n", "concurrency", "requests",
+				"errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for (int i = 0; i < results.size(); i++) {
+			LoadStepResult result = results.get(i);
+			table.append(String.format(Locale.ROOT, "%11d %9d %7d %10.2f %9.1f %9.1f %9.1f %9.1f %9.1f",
+					result.getConcurrency(), result.getRequests(), result.getErrors(), result.getThroughput(),
+					result.getLatencyMillis(50), result.getLatencyMillis(90), result.getLatencyMillis(99),
+					result.getLatencyMillis(99.9), result.getMaxLatencyMillis()));
+			if (i == saturationIndex) {
+				table.append("  <- saturation");
+			}
+			table.append(System.lineSeparator());
+		}
+		return table.toString();
+	}
+
+	/**
+	 * The method writes {@code summary.csv} and one HdrHistogram percentile
+	 * distribution ({@code concurrency-N.hgrm}) per step to the report directory.
+	 *
+	 * @param results   -- steps in increasing concurrency order
+	 * @param reportDir -- directory to write to, created when missing
+	 * @throws IOException
+	 */
+	public static void writeReport(List<LoadStepResult> results, Path reportDir) throws IOException {
+		Files.createDirectories(reportDir);
+		Path summary = reportDir.resolve("summary.csv");
+		try (BufferedWriter writer = Files.newBufferedWriter(summary, StandardCharsets.UTF_8)) {
+			writer.write(CSV_HEADER);
+			writer.newLine();
+			for (LoadStepResult result : results) {
+				writer.write(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+						result.getConcurrency(), result.getRequests(), result.getErrors(), result.getThroughput(),
+						result.getLatencyMillis(50), result.getLatencyMillis(90), result.getLatencyMillis(99),
+						result.getLatencyMillis(99.9), result.getMaxLatencyMillis()));
+				writer.newLine();
+			}
+		}
+		for (LoadStepResult result : results) {
+			Path distribution = reportDir.resolve("concurrency-" + result.getConcurrency() + ".hgrm");
+			try (PrintStream out = new PrintStream(Files.newOutputStream(distribution), false,
+					StandardCharsets.UTF_8)) {
+				result.getHistogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+			}
+		}
+		logger.info("Load test report written to {}", reportDir.toAbsolutePath());
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.drajer.ecrfhirValidator.loadtest.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CapabilityStatement;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.TerminologyCapabilities;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+
+@SpringBootTest(properties = { "mock.tx.latency-ms=0", "mock.tx.jitter-ms=0" })
+@ActiveProfiles("mock-tx")
+@AutoConfigureMockMvc
+class MockTerminologyControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FhirContext fhirContext;
+
+	@Test
+	void servesCapabilities() throws Exception {
+		IParser parser = fhirContext.newJsonParser();
+
+		String metadata = mockMvc.perform(get("/fhir/metadata")).andExpect(status().isOk()).andReturn()
+				.getResponse().getContentAsString();
+		assertEquals("4.0.1", parser.parseResource(CapabilityStatement.class, metadata).getFhirVersion().toCode());
+
+		String terminology = mockMvc.perform(get("/fhir/metadata").param("mode", "terminology"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		List<String> codeSystems = parser.parseResource(TerminologyCapabilities.class, terminology).getCodeSystem()
+				.stream().map(TerminologyCapabilities.TerminologyCapabilitiesCodeSystemComponent::getUri)
+				.collect(Collectors.toList());
+		assertTrue(codeSystems.contains("http://loinc.org"));
+		assertTrue(codeSystems.contains("http://snomed.info/sct"));
+		assertTrue(codeSystems.contains("http://www.nlm.nih.gov/research/umls/rxnorm"));
+		assertTrue(codeSystems.contains("http://hl7.org/fhir/sid/cvx"));
+		assertTrue(codeSystems.contains("http://hl7.org/fhir/sid/icd-10-cm"));
+	}
+
+	@Test
+	void validatesCodeFromQueryParameters() throws Exception {
+		String response = mockMvc
+				.perform(get("/fhir/ValueSet/$validate-code").param("code", "3928002")
+						.param("system", "http://snomed.info/sct").param("display", "Zika"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+		Parameters outcome = fhirContext.newJsonParser().parseResource(Parameters.class, response);
+		assertTrue(outcome.getParameterBool("result"));
+		assertEquals("http://snomed.info/sct", outcome.getParameter("system").primitiveValue());
+		assertEquals("3928002", outcome.getParameter("code").primitiveValue());
+		assertEquals("Zika", outcome.getParameter("display").primitiveValue());
+	}
+
+	@Test
+	void validatesEveryCodeInBatch() throws Exception {
+		IParser parser = fhirContext.newJsonParser();
+		Parameters parameters = new Parameters();
+		parameters.addParameter().setName("coding").setValue(new Coding("http://snomed.info/sct", "3928002", "Zika"));
+		Bundle batch = new Bundle().setType(Bundle.BundleType.BATCH);
+		batch.addEntry().setResource(parameters).getRequest().setMethod(Bundle.HTTPVerb.POST)
+				.setUrl("ValueSet/$validate-code");
+
+		String response = mockMvc
+				.perform(post("/fhir").contentType("application/fhir+json")
+						.content(parser.encodeResourceToString(batch)))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+		Bundle result = parser.parseResource(Bundle.class, response);
+		assertEquals(Bundle.BundleType.BATCHRESPONSE, result.getType());
+		Parameters outcome = (Parameters) result.getEntryFirstRep().getResource();
+		assertTrue(outcome.getParameterBool("result"));
+		assertEquals("Zika", outcome.getParameter("display").primitiveValue());
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.drajer.ecrfhirValidator.loadtest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.Reference;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.drajer.ecrfhirValidator.loadtest.config.LoadTestConfiguration;
+
+class SyntheticEicrGeneratorTests {
+
+	private static SyntheticEicrGenerator generator;
+
+	@BeforeAll
+	static void loadPackage() throws Exception {
+		generator = new SyntheticEicrGenerator(LoadTestConfiguration.ctx,
+				new ClassPathResource("packages/ecr.fhir.us.anonymized-eicr.r4-1.0.0.tgz"), 20);
+	}
+
+	@Test
+	void generatesProfiledDocumentBundle() {
+		Bundle bundle = generator.generate(new Random(1));
+
+		assertEquals(Bundle.BundleType.DOCUMENT, bundle.getType());
+		assertEquals("Composition", bundle.getEntryFirstRep().getResource().fhirType());
+		assertTrue(bundle.getEntryFirstRep().getResource().getMeta().hasProfile());
+	}
+
+	@Test
+	void internalReferencesPointAtFreshEntries() {
+		Bundle bundle = generator.generate(new Random(2));
+
+		Set<String> fullUrls = new HashSet<>();
+		for (BundleEntryComponent entry : bundle.getEntry()) {
+			assertTrue(entry.getFullUrl().startsWith("urn:uuid:"));
+			assertTrue(fullUrls.add(entry.getFullUrl()), "duplicate fullUrl " + entry.getFullUrl());
+		}
+		for (BundleEntryComponent entry : bundle.getEntry()) {
+			for (Reference reference : LoadTestConfiguration.ctx.newTerser()
+					.getAllPopulatedChildElementsOfType(entry.getResource(), Reference.class)) {
+				assertTrue(!reference.hasReference() || !reference.getReference().contains("-anon"),
+						"stale reference " + reference.getReference());
+			}
+		}
+	}
+
+	@Test
+	void seededRunsAreReproducible() {
+		Bundle first = generator.generate(new Random(3));
+		Bundle second = generator.generate(new Random(3));
+		Bundle other = generator.generate(new Random(4));
+
+		assertEquals(first.getEntry().size(), second.getEntry().size());
+		assertEquals(first.getEntryFirstRep().getFullUrl(), second.getEntryFirstRep().getFullUrl());
+		assertEquals(first.getTimestamp(), second.getTimestamp());
+		assertEquals(LoadTestConfiguration.ctx.newXmlParser().encodeResourceToString(first),
+				LoadTestConfiguration.ctx.newXmlParser().encodeResourceToString(second));
+		assertNotEquals(first.getEntryFirstRep().getFullUrl(), other.getEntryFirstRep().getFullUrl());
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.drajer.ecrfhirValidator.loadtest.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import com.drajer.ecrfhirValidator.loadtest.response.LoadStepResult;
+
+class LoadReportUtilsTests {
+
+	private static final double THRESHOLD = 0.10;
+
+	/** One-second step completing {@code requests} requests of 20 ms each. */
+	private static LoadStepResult step(int concurrency, int requests) {
+		Histogram histogram = new Histogram(3);
+		histogram.recordValueWithCount(20_000, requests);
+		return new LoadStepResult(concurrency, TimeUnit.SECONDS.toNanos(1), 0, histogram);
+	}
+
+	@Test
+	void scalingThroughputIsNotSaturated() {
+		List<LoadStepResult> results = List.of(step(1, 50), step(2, 100), step(4, 200));
+
+		assertEquals(-1, LoadReportUtils.findSaturationIndex(results, THRESHOLD));
+		assertFalse(LoadReportUtils.formatTable(results, THRESHOLD).contains("<- saturation"));
+	}
+
+	@Test
+	void firstGainBelowThresholdIsSaturated() {
+		// 100 -> 105 req/s is a 5% gain, the later 105 -> 110 must not move the mark
+		List<LoadStepResult> results = List.of(step(1, 50), step(2, 100), step(4, 105), step(8, 110));
+
+		assertEquals(2, LoadReportUtils.findSaturationIndex(results, THRESHOLD));
+		assertSaturationRow(LoadReportUtils.formatTable(results, THRESHOLD), 4);
+	}
+
+	@Test
+	void throughputDropIsSaturated() {
+		List<LoadStepResult> results = List.of(step(1, 50), step(2, 100), step(4, 80));
+
+		assertEquals(2, LoadReportUtils.findSaturationIndex(results, THRESHOLD));
+		assertSaturationRow(LoadReportUtils.formatTable(results, THRESHOLD), 4);
+	}
+
+	private static void assertSaturationRow(String table, int concurrency) {
+		String[] rows = table.split(System.lineSeparator());
+		int marked = 0;
+		for (String row : rows) {
+			if (row.endsWith("<- saturation")) {
+				marked++;
+				assertTrue(row.trim().startsWith(concurrency + " "), "wrong row marked: " + row);
+			}
+		}
+		assertEquals(1, marked);
+	}
+
+}
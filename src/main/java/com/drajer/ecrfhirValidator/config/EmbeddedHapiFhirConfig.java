@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.utilities.FhirPublication;
 import org.hl7.fhir.utilities.VersionUtilities;
 import org.hl7.fhir.utilities.npm.FilesystemPackageCacheManager;
 import org.hl7.fhir.validation.IgLoader;
@@ -45,6 +47,13 @@ public class EmbeddedHapiFhirConfig {
 	@Value("${ecr.anonymizer.cache.file}")
 	private String ecrAnonymizerCacheFile;
 
+	/**
+	 * Terminology server used by the validation engine. Left blank the engine
+	 * runs without one; the load-test module points this at its mock server.
+	 */
+	@Value("${ecr.validator.tx.server:}")
+	private String txServer;
+
 	private static final String COMMA_SEPARATOR = ",";
 
 	@Bean
@@ -72,7 +81,7 @@ public class EmbeddedHapiFhirConfig {
 			final String definitions = VersionUtilities.packageForVersion(fhirSpecVersion) + "#"
 					+ VersionUtilities.getCurrentVersion(fhirSpecVersion);
 			LOGGER.info("Definitions:::::{}", definitions);
-			final String txServer = true ? "http://tx.fhir.org" : null;
+			LOGGER.info("Terminology server:::::{}", StringUtils.defaultIfBlank(txServer, "none"));
 			final String fhirVersion = "4.0.1";
 
 			String cachefolderpath = environment.getProperty("ecr.anonymizer.cache.file");
@@ -119,7 +128,7 @@ public class EmbeddedHapiFhirConfig {
 
 			LOGGER.info("Initializing HL7 Validator inside Validator");
 			ValidationEngine validationEngine = getValidationEngine(definitions, null, true, fhirSpecVersion,
-					cacheManager, terminologycachePath);
+					cacheManager, terminologycachePath, txServer);
 			LOGGER.info("Done initializing");
 
 			IgLoader igLoader = new IgLoader(cacheManager, validationEngine.getContext(),
@@ -150,11 +159,16 @@ public class EmbeddedHapiFhirConfig {
 	}
 
 	public static ValidationEngine getValidationEngine(String src, String path, boolean canRunWithoutTerminologyServer,
-			String vString, FilesystemPackageCacheManager pcm, Path terminologycachePath) throws Exception {
+			String vString, FilesystemPackageCacheManager pcm, Path terminologycachePath, String txServer)
+			throws Exception {
 
-		final ValidationEngine validationEngine = new ValidationEngine.ValidationEngineBuilder()
+		ValidationEngine.ValidationEngineBuilder builder = new ValidationEngine.ValidationEngineBuilder()
 				.withCanRunWithoutTerminologyServer(canRunWithoutTerminologyServer).withVersion(vString)
-				.withTerminologyCachePath(terminologycachePath.toString()).fromSource(src).setPcm(pcm);
+				.withTerminologyCachePath(terminologycachePath.toString());
+		if (StringUtils.isNotBlank(txServer)) {
+			builder = builder.withTxServer(txServer, null, FhirPublication.R4);
+		}
+		final ValidationEngine validationEngine = builder.fromSource(src).setPcm(pcm);
 		return validationEngine;
 	}
 